@@ -1,66 +1,162 @@
 package com.yang.freamwork.udf;
 
-import org.apache.hadoop.hive.ql.exec.UDF;
+import com.yang.freamwork.common.Converters;
+import com.yang.freamwork.common.UDFMetrics;
+import com.yang.freamwork.common.Utf8;
+import com.yang.freamwork.common.Utf8Slice;
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
 
 /**
   * 通过经纬度获取距离(单位：米)
+  * 入参：【经度1, 纬度1, 经度2, 纬度2】每个参数可以是数值或字符串，或【"经度1,纬度1", "经度2,纬度2"】
+  * 返回值：double（复用的DoubleWritable）
   *
   * @author yangfan
   * @since 2021/3/30
   * @version 1.0.0
+  * @version 1.0.1 增加运行指标上报，改为GenericUDF以便在configure、close中上报
+  * @version 1.0.2 按入参类型在initialize时为每个参数选定转换方式，string类型直接在字节上解析经纬度，
+  * 4个参数可以混用数值和字符串，返回值改为复用的DoubleWritable
   */
 @SuppressWarnings("unused")
-public class LonLatDistanceUDF extends UDF {
+public class LonLatDistanceUDF extends GenericUDF {
 
     private static final double EARTH_RADIUS = 6378.137D;
+    private static final byte[] COMMA = {','};
 
-    private double rad(double d) {
-        return d * Math.PI / 180D;
-    }
+    private final UDFMetrics metrics = new UDFMetrics("LonLatDistanceUDF");
+    private final double[] lonLat1 = new double[2];
+    private final double[] lonLat2 = new double[2];
+    private final DoubleWritable result = new DoubleWritable();
+    private Converters.DoubleConverter[] doubleConverters;
+    private Converters.Utf8Converter[] lonLatConverters;
 
-    public Double evaluate(Double lon1, Double lat1, Double lon2, Double lat2) {
-        try {
-            double radLat1 = rad(lat1);
-            double radLat2 = rad(lat2);
-            double a = radLat1 - radLat2;
-            double b = rad(lon1) - rad(lon2);
-            double s = 2 * Math.asin(Math.sqrt(Math.pow(Math.sin(a / 2), 2) +
-                    Math.cos(radLat1) * Math.cos(radLat2) * Math.pow(Math.sin(b / 2), 2)));
-            s = s * EARTH_RADIUS;
-            s = s * Math.round(10000d) / 10000d;
-            s = s * 1000;
-            return s;
-        } catch (Exception e) {
-            return null;
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] argOIs) throws UDFArgumentException {
+        if (argOIs.length != 4 && argOIs.length != 2) {
+            throw new UDFArgumentException("args length mast be 4 or 2 !");
+        }
+        for (int i = 0; i < argOIs.length; i++) {
+            if (argOIs[i].getCategory() != ObjectInspector.Category.PRIMITIVE) {
+                throw new UDFArgumentException("args " + i + " mast be a `PRIMITIVE` type");
+            }
         }
+        if (argOIs.length == 4) {
+            doubleConverters = new Converters.DoubleConverter[4];
+            for (int i = 0; i < 4; i++) {
+                doubleConverters[i] = Converters.doubleConverter((PrimitiveObjectInspector) argOIs[i]);
+            }
+        } else {
+            lonLatConverters = new Converters.Utf8Converter[2];
+            for (int i = 0; i < 2; i++) {
+                lonLatConverters[i] = Converters.utf8Converter((PrimitiveObjectInspector) argOIs[i]);
+            }
+        }
+        return PrimitiveObjectInspectorFactory.writableDoubleObjectInspector;
+    }
+
+    @Override
+    public void configure(MapredContext context) {
+        metrics.configure(context);
     }
 
-    public Double evaluate(String lon1, String lat1, String lon2, String lat2) {
+    @Override
+    public Object evaluate(DeferredObject[] args) throws HiveException {
+        long start = metrics.begin();
+        Object value1 = args[0].get();
+        Object value2 = args[1].get();
+        if (value1 == null || value2 == null) {
+            return metrics.end(start, null);
+        }
         try {
-            return evaluate(Double.valueOf(lon1), Double.valueOf(lat1),
-                    Double.valueOf(lon2), Double.valueOf(lat2));
-        } catch (Exception e) {
-            return null;
+            if (lonLatConverters != null) {
+                parseLonLat(lonLatConverters[0].convert(value1), lonLat1);
+                parseLonLat(lonLatConverters[1].convert(value2), lonLat2);
+            } else {
+                Object value3 = args[2].get();
+                Object value4 = args[3].get();
+                if (value3 == null || value4 == null) {
+                    return metrics.end(start, null);
+                }
+                lonLat1[0] = doubleConverters[0].convert(value1);
+                lonLat1[1] = doubleConverters[1].convert(value2);
+                lonLat2[0] = doubleConverters[2].convert(value3);
+                lonLat2[1] = doubleConverters[3].convert(value4);
+            }
+        } catch (NumberFormatException e) {
+            metrics.parseFailure();
+            return metrics.end(start, null);
         }
+        result.set(distance(lonLat1[0], lonLat1[1], lonLat2[0], lonLat2[1]));
+        return metrics.end(start, result);
     }
 
-    public Double evaluate(String lonLatStr1, String lonLatStr2) {
-        try {
-            String[] lonLat1 = lonLatStr1.split(",");
-            String[] lonLat2 = lonLatStr2.split(",");
-            return evaluate(Double.valueOf(lonLat1[0]), Double.valueOf(lonLat1[1]),
-                    Double.valueOf(lonLat2[0]), Double.valueOf(lonLat2[1]));
-        } catch (Exception e) {
-            return null;
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
+    private double rad(double d) {
+        return d * Math.PI / 180D;
+    }
+
+    private double distance(double lon1, double lat1, double lon2, double lat2) {
+        double radLat1 = rad(lat1);
+        double radLat2 = rad(lat2);
+        double a = radLat1 - radLat2;
+        double b = rad(lon1) - rad(lon2);
+        double s = 2 * Math.asin(Math.sqrt(Math.pow(Math.sin(a / 2), 2) +
+                Math.cos(radLat1) * Math.cos(radLat2) * Math.pow(Math.sin(b / 2), 2)));
+        s = s * EARTH_RADIUS;
+        s = s * Math.round(10000d) / 10000d;
+        s = s * 1000;
+        return s;
+    }
+
+    /**
+     * 解析"经度,纬度"，与split(",")后取前两项一致
+     */
+    private static void parseLonLat(Utf8Slice slice, double[] lonLat) {
+        byte[] bytes = slice.bytes();
+        int end = slice.end();
+        int comma = Utf8.indexOf(bytes, slice.start(), end, COMMA);
+        if (comma < 0) {
+            throw new NumberFormatException("missing `,` in " + slice);
         }
+        int next = Utf8.indexOf(bytes, comma + 1, end, COMMA);
+        lonLat[0] = Utf8.parseDouble(bytes, slice.start(), comma);
+        lonLat[1] = Utf8.parseDouble(bytes, comma + 1, next < 0 ? end : next);
+    }
+
+    @Override
+    public String getDisplayString(String[] strings) {
+        return "lon_lat_distance(" + String.join(", ", strings) + ")";
     }
 
-    public static void main(String[] args) {
-        LonLatDistanceUDF udf = new LonLatDistanceUDF();
-        Double result1 = udf.evaluate(110.312, 30.132, 123.42, 32.011);
-        Double result2 = udf.evaluate("110.312", "30.132", "123.42", "32.011");
-        Double result3 = udf.evaluate("110.312,30.132", "123.42,32.011");
-        Double result4 = udf.evaluate(null, 30.132, 123.42, 32.011);
+    public static void main(String[] args) throws HiveException {
+        LonLatDistanceUDF udf1 = new LonLatDistanceUDF();
+        ObjectInspector doubleOI = PrimitiveObjectInspectorFactory.javaDoubleObjectInspector;
+        udf1.initialize(new ObjectInspector[]{doubleOI, doubleOI, doubleOI, doubleOI});
+        LonLatDistanceUDF udf2 = new LonLatDistanceUDF();
+        ObjectInspector stringOI = PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+        udf2.initialize(new ObjectInspector[]{stringOI, stringOI, stringOI, stringOI});
+        LonLatDistanceUDF udf3 = new LonLatDistanceUDF();
+        udf3.initialize(new ObjectInspector[]{stringOI, stringOI});
+        Object result1 = udf1.evaluate(new DeferredObject[]{new DeferredJavaObject(110.312),
+                new DeferredJavaObject(30.132), new DeferredJavaObject(123.42), new DeferredJavaObject(32.011)});
+        Object result2 = udf2.evaluate(new DeferredObject[]{new DeferredJavaObject("110.312"),
+                new DeferredJavaObject("30.132"), new DeferredJavaObject("123.42"), new DeferredJavaObject("32.011")});
+        Object result3 = udf3.evaluate(new DeferredObject[]{new DeferredJavaObject("110.312,30.132"),
+                new DeferredJavaObject("123.42,32.011")});
+        Object result4 = udf1.evaluate(new DeferredObject[]{new DeferredJavaObject(null),
+                new DeferredJavaObject(30.132), new DeferredJavaObject(123.42), new DeferredJavaObject(32.011)});
         System.out.println(result1);
         System.out.println(result2);
         System.out.println(result3);
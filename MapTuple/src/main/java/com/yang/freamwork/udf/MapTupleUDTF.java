@@ -1,15 +1,20 @@
 package com.yang.freamwork.udf;
 
+import com.yang.freamwork.common.Converters;
+import com.yang.freamwork.common.UDFMetrics;
+import com.yang.freamwork.common.Utf8Index;
+import com.yang.freamwork.common.Utf8Slice;
+import org.apache.hadoop.hive.ql.exec.MapredContext;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
 import org.apache.hadoop.hive.ql.udf.generic.GenericUDTF;
 import org.apache.hadoop.hive.serde2.objectinspector.*;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
-import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorUtils;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.StringObjectInspector;
 
-import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,16 +28,44 @@ import java.util.Map;
  *
  * @author yangfan
  * @version 1.0.0
+ * @version 1.0.1 增加运行指标上报
+ * @version 1.0.2 不再把整个map转成String，只转换命中key的value；传入的key建哈希索引，string类型的key直接按字节查找
  * @since 2020/11/11
  */
 @SuppressWarnings("unused")
 public class MapTupleUDTF extends GenericUDTF {
 
-    private static MapObjectInspector mapOI = null;
-    private static PrimitiveObjectInspector mapKeyOI = null;
-    private static PrimitiveObjectInspector mapValueOI = null;
     private static final StringObjectInspector stringOI =
             PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+    private final UDFMetrics metrics = new UDFMetrics("MapTupleUDTF");
+
+    private MapObjectInspector mapOI = null;
+    private Converters.StringConverter mapValueConverter = null;
+    /**
+     * map的key是writable、lazy的string时按字节查找，否则按String查找
+     */
+    private boolean compareBytes;
+    private Converters.Utf8Converter mapKeyUtf8Converter = null;
+    private Converters.StringConverter mapKeyConverter = null;
+    private Converters.Utf8Converter[] keyUtf8Converters = null;
+    private Converters.StringConverter[] keyConverters = null;
+    /**
+     * 传入的key去重后建索引，每个map key只查找一次；key全是常量时索引只建一次
+     */
+    private boolean constantKeys;
+    private boolean keysIndexed;
+    private final Utf8Index utf8KeyIndex = new Utf8Index();
+    private final Map<String, Integer> keyIndex = new HashMap<>();
+    /**
+     * 每个传入key在索引中的序号，null为-1；重复的key共用一个序号
+     */
+    private int[] keyOrdinals = null;
+    private String[] values = null;
+
+    @Override
+    public void configure(MapredContext context) {
+        metrics.configure(context);
+    }
 
     /**
      * 为了兼容spark2.1、2.3，这里重写过时的initialize方法
@@ -61,8 +94,25 @@ public class MapTupleUDTF extends GenericUDTF {
         }
 
         mapOI = (MapObjectInspector) objectInspectors[0];
-        mapKeyOI = (PrimitiveObjectInspector) mapOI.getMapKeyObjectInspector();
-        mapValueOI = (PrimitiveObjectInspector) mapOI.getMapValueObjectInspector();
+        PrimitiveObjectInspector mapKeyOI = (PrimitiveObjectInspector) mapOI.getMapKeyObjectInspector();
+        PrimitiveObjectInspector mapValueOI = (PrimitiveObjectInspector) mapOI.getMapValueObjectInspector();
+        mapValueConverter = Converters.stringConverter(mapValueOI);
+        compareBytes = mapKeyOI.getPrimitiveCategory() == PrimitiveCategory.STRING && mapKeyOI.preferWritable();
+        mapKeyUtf8Converter = Converters.utf8Converter(mapKeyOI);
+        mapKeyConverter = Converters.stringConverter(mapKeyOI);
+
+        keyUtf8Converters = new Converters.Utf8Converter[length - 1];
+        keyConverters = new Converters.StringConverter[length - 1];
+        constantKeys = true;
+        keysIndexed = false;
+        keyOrdinals = new int[length - 1];
+        values = new String[length - 1];
+        for (int i = 1; i < length; i++) {
+            PrimitiveObjectInspector keyOI = (PrimitiveObjectInspector) objectInspectors[i];
+            keyUtf8Converters[i - 1] = Converters.utf8Converter(keyOI);
+            keyConverters[i - 1] = Converters.stringConverter(keyOI);
+            constantKeys &= keyOI instanceof ConstantObjectInspector;
+        }
 
         List<String> fieldNames = new ArrayList<>(length - 1);
         List<ObjectInspector> fieldOIs = new ArrayList<>(length - 1);
@@ -75,31 +125,82 @@ public class MapTupleUDTF extends GenericUDTF {
 
     @Override
     public void process(Object[] objects) throws HiveException {
+        long start = metrics.begin();
         String[] result = new String[objects.length - 1];
         Map<?, ?> map = mapOI.getMap(objects[0]);
-        Map<String, String> strMap = (map == null || map.isEmpty()) ?
-                null : toStringMap(map, mapKeyOI, mapValueOI);
-        for (int i = 1; i < objects.length; i++) {
-            String k = stringOI.getPrimitiveJavaObject(objects[i]);
-            result[i - 1] = strMap == null ? null : strMap.getOrDefault(k, null);
+        boolean empty = map == null || map.isEmpty();
+        if (!empty) {
+            if (!constantKeys || !keysIndexed) {
+                indexKeys(objects);
+            }
+            Arrays.fill(values, null);
+            if (compareBytes) {
+                lookupUtf8(map);
+            } else {
+                lookup(map);
+            }
+            for (int i = 0; i < result.length; i++) {
+                result[i] = keyOrdinals[i] < 0 ? null : values[keyOrdinals[i]];
+            }
         }
+        metrics.end(start, empty ? null : map);
         forward(result);
     }
 
-    private static Map<String, String> toStringMap(@Nonnull final Map<?, ?> map,
-                                                   @Nonnull final PrimitiveObjectInspector keyOI,
-                                                   @Nonnull final PrimitiveObjectInspector valueOI) {
-        final Map<String, String> result = new HashMap<>(map.size());
+    private void indexKeys(Object[] objects) {
+        if (compareBytes) {
+            utf8KeyIndex.clear();
+            for (int i = 0; i < keyOrdinals.length; i++) {
+                Utf8Slice key = keyUtf8Converters[i].convert(objects[i + 1]);
+                keyOrdinals[i] = key == null ? -1 : utf8KeyIndex.add(key.bytes(), key.start(), key.end());
+            }
+        } else {
+            keyIndex.clear();
+            for (int i = 0; i < keyOrdinals.length; i++) {
+                String key = keyConverters[i].convert(objects[i + 1]);
+                if (key == null) {
+                    keyOrdinals[i] = -1;
+                    continue;
+                }
+                Integer ordinal = keyIndex.get(key);
+                if (ordinal == null) {
+                    ordinal = keyIndex.size();
+                    keyIndex.put(key, ordinal);
+                }
+                keyOrdinals[i] = ordinal;
+            }
+        }
+        keysIndexed = true;
+    }
+
+    private void lookupUtf8(Map<?, ?> map) {
         for (Map.Entry<?, ?> entry : map.entrySet()) {
-            String k = PrimitiveObjectInspectorUtils.getString(entry.getKey(), keyOI);
-            String v = PrimitiveObjectInspectorUtils.getString(entry.getValue(), valueOI);
-            result.put(k, v);
+            Utf8Slice k = mapKeyUtf8Converter.convert(entry.getKey());
+            if (k == null) {
+                continue;
+            }
+            int ordinal = utf8KeyIndex.indexOf(k.bytes(), k.start(), k.end());
+            if (ordinal >= 0) {
+                values[ordinal] = mapValueConverter.convert(entry.getValue());
+            }
+        }
+    }
+
+    private void lookup(Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String k = mapKeyConverter.convert(entry.getKey());
+            if (k == null) {
+                continue;
+            }
+            Integer ordinal = keyIndex.get(k);
+            if (ordinal != null) {
+                values[ordinal] = mapValueConverter.convert(entry.getValue());
+            }
         }
-        return result;
     }
 
     @Override
     public void close() {
-
+        metrics.close();
     }
 }
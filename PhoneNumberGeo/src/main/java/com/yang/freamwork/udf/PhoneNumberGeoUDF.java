@@ -2,11 +2,18 @@ package com.yang.freamwork.udf;
 
 import com.google.i18n.phonenumbers.Phonenumber;
 import com.google.i18n.phonenumbers.geocoding.PhoneNumberOfflineGeocoder;
+import com.yang.freamwork.common.Converters;
+import com.yang.freamwork.common.UDFMetrics;
+import org.apache.hadoop.hive.ql.exec.MapredContext;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
 import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Locale;
 
 /**
@@ -15,12 +22,19 @@ import java.util.Locale;
   * @author yangfan
   * @since 2021/3/30
   * @version 1.0.0
+  * @version 1.0.1 手机号改为从内存映射的号段库查询，其他号码回退到libphonenumber
+  * @version 1.0.2 增加运行指标上报
+  * @version 1.0.3 按入参类型在initialize时选定转换方式，string类型直接解析字节
   */
 @SuppressWarnings("unused")
 public class PhoneNumberGeoUDF extends GenericUDF {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PhoneNumberGeoUDF.class);
+    private static PhonePrefixDb prefixDb;
     private static PhoneNumberOfflineGeocoder geoCoder;
     private static final Phonenumber.PhoneNumber pn;
+    private final UDFMetrics metrics = new UDFMetrics("PhoneNumberGeoUDF");
+    private Converters.LongConverter numberConverter;
 
     static {
         pn = new Phonenumber.PhoneNumber();
@@ -35,20 +49,59 @@ public class PhoneNumberGeoUDF extends GenericUDF {
         if (argOIs[0].getCategory() != ObjectInspector.Category.PRIMITIVE) {
             throw new UDFArgumentException("args 0 mast be a `PRIMITIVE` type");
         }
-        geoCoder = PhoneNumberOfflineGeocoder.getInstance();
+        numberConverter = Converters.longConverter((PrimitiveObjectInspector) argOIs[0]);
+        try {
+            prefixDb = PhonePrefixDb.getInstance();
+        } catch (IOException e) {
+            // 号段库不可用时全部走libphonenumber，结果相同但更慢、更占内存
+            LOG.warn("phone prefix db unavailable, fall back to libphonenumber", e);
+            prefixDb = null;
+        }
         return PrimitiveObjectInspectorFactory.javaStringObjectInspector;
     }
 
+    @Override
+    public void configure(MapredContext context) {
+        metrics.configure(context);
+    }
+
     @Override
     public Object evaluate(DeferredObject[] deferredObjects) {
+        long start = metrics.begin();
         try {
-            pn.setNationalNumber(Long.valueOf(String.valueOf(deferredObjects[0].get())));
-            String phone = geoCoder.getDescriptionForNumber(pn, Locale.CHINESE);
-            pn.setNationalNumber(0L);
-            return null == phone || phone.isEmpty() ? null : phone;
+            Object value = deferredObjects[0].get();
+            if (value == null) {
+                return metrics.end(start, null);
+            }
+            long number = numberConverter.convert(value);
+            String phone;
+            if (prefixDb != null && prefixDb.covers(number)) {
+                phone = prefixDb.getDescription(number);
+            } else {
+                pn.setNationalNumber(number);
+                phone = getGeoCoder().getDescriptionForNumber(pn, Locale.CHINESE);
+                pn.setNationalNumber(0L);
+            }
+            return metrics.end(start, null == phone || phone.isEmpty() ? null : phone);
         } catch (Exception e) {
-            return null;
+            metrics.parseFailure();
+            return metrics.end(start, null);
+        }
+    }
+
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
+    /**
+     * 号段库未覆盖的号码才加载libphonenumber的数据，避免每个task都加载全部前缀文件
+     */
+    private static PhoneNumberOfflineGeocoder getGeoCoder() {
+        if (geoCoder == null) {
+            geoCoder = PhoneNumberOfflineGeocoder.getInstance();
         }
+        return geoCoder;
     }
 
     @Override
@@ -57,19 +110,19 @@ public class PhoneNumberGeoUDF extends GenericUDF {
     }
 
     public static void main(String[] args) throws UDFArgumentException {
-        PhoneNumberGeoUDF udf = new PhoneNumberGeoUDF();
-        //ObjectInspector[] oi = {PrimitiveObjectInspectorFactory.javaStringObjectInspector};
-        ObjectInspector[] oi = {PrimitiveObjectInspectorFactory.javaLongObjectInspector};
-        udf.initialize(oi);
-        GenericUDF.DeferredObject[] o1 = {new GenericUDF.DeferredJavaObject("18888888888")};
-        GenericUDF.DeferredObject[] o2 = {new GenericUDF.DeferredJavaObject("0")};
+        PhoneNumberGeoUDF longUdf = new PhoneNumberGeoUDF();
+        longUdf.initialize(new ObjectInspector[]{PrimitiveObjectInspectorFactory.javaLongObjectInspector});
+        PhoneNumberGeoUDF stringUdf = new PhoneNumberGeoUDF();
+        stringUdf.initialize(new ObjectInspector[]{PrimitiveObjectInspectorFactory.javaStringObjectInspector});
+        GenericUDF.DeferredObject[] o1 = {new GenericUDF.DeferredJavaObject(18888888888L)};
+        GenericUDF.DeferredObject[] o2 = {new GenericUDF.DeferredJavaObject(0L)};
         GenericUDF.DeferredObject[] o3 = {new GenericUDF.DeferredJavaObject(null)};
-        GenericUDF.DeferredObject[] o4 = {new GenericUDF.DeferredJavaObject(18888888888L)};
-        GenericUDF.DeferredObject[] o5 = {new GenericUDF.DeferredJavaObject(18888888888D)};
-        System.out.println(udf.evaluate(o1));
-        System.out.println(udf.evaluate(o2));
-        System.out.println(udf.evaluate(o3));
-        System.out.println(udf.evaluate(o4));
-        System.out.println(udf.evaluate(o5));
+        GenericUDF.DeferredObject[] o4 = {new GenericUDF.DeferredJavaObject("18888888888")};
+        GenericUDF.DeferredObject[] o5 = {new GenericUDF.DeferredJavaObject("1888888888a")};
+        System.out.println(longUdf.evaluate(o1));
+        System.out.println(longUdf.evaluate(o2));
+        System.out.println(longUdf.evaluate(o3));
+        System.out.println(stringUdf.evaluate(o4));
+        System.out.println(stringUdf.evaluate(o5));
     }
 }
@@ -0,0 +1,195 @@
+package com.yang.freamwork.udf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * 手机号段二进制库，文件由{@link PhonePrefixDbGenerator}在构建期生成，
+ * 通过内存映射加载并二分查找，映射同一个文件的task共享page cache，几乎不占用堆内存
+ * 文件格式（大端）：
+ * magic(int) version(int) 记录数(int) 字符串数(int)
+ * 记录：号段起点(int) 归属地下标(short)，按号段起点升序
+ * 字符串表：writeUTF（modified UTF-8）
+ * <p>
+ * 文件查找顺序：系统属性phone.prefix.db、当前目录下的phone-prefix.dat（分布式缓存）、
+ * jar包内资源（解压到系统属性phone.prefix.dir指定的目录后映射，默认/tmp）
+ * yarn容器的java.io.tmpdir是容器私有目录，容器退出即删除，解压到这里的文件不能在task间共享，
+ * 所以默认解压到节点级的/tmp；该目录不可写时才退回java.io.tmpdir，此时每个task各自一份
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class PhonePrefixDb {
+
+    static final int MAGIC = 0x50474544;
+    static final int VERSION = 2;
+    static final short NONE = -1;
+    static final long SUFFIX_RANGE = 10000L;
+
+    static final String FILE_NAME = "phone-prefix.dat";
+    private static final String PATH_PROPERTY = "phone.prefix.db";
+    private static final String DIR_PROPERTY = "phone.prefix.dir";
+    private static final String DEFAULT_DIR = "/tmp";
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 6;
+    private static final long MIN_NUMBER = 10000000000L;
+    private static final long MAX_NUMBER = 19999999999L;
+
+    private static volatile PhonePrefixDb instance;
+
+    private final ByteBuffer entries;
+    private final int size;
+    private final String[] strings;
+
+    private PhonePrefixDb(File file, MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported phone prefix db format: " + file);
+        }
+        size = buffer.getInt(8);
+        int stringCount = buffer.getInt(12);
+        long stringsStart = HEADER_SIZE + (long) size * ENTRY_SIZE;
+        // 每个字符串至少有2字节的长度前缀
+        if (size < 0 || stringCount < 0 || stringsStart + 2L * stringCount > buffer.capacity()) {
+            throw new IOException("corrupt phone prefix db " + file + ": " + size + " entries, "
+                    + stringCount + " strings, " + buffer.capacity() + " bytes");
+        }
+        strings = new String[stringCount];
+        // 字符串表由writeUTF写入（modified UTF-8），必须用readUTF解码
+        byte[] table = new byte[buffer.capacity() - (int) stringsStart];
+        ByteBuffer tail = buffer.duplicate();
+        tail.position((int) stringsStart);
+        tail.get(table);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(table));
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        entries = buffer;
+        // 查询时不再检查下标和顺序，加载时校验一遍所有记录
+        int lastPrefix = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int prefix = entries.getInt(HEADER_SIZE + i * ENTRY_SIZE);
+            short index = entries.getShort(HEADER_SIZE + i * ENTRY_SIZE + 4);
+            if (prefix <= lastPrefix || index < NONE || index >= stringCount) {
+                throw new IOException("corrupt phone prefix db " + file + ": entry " + i);
+            }
+            lastPrefix = prefix;
+        }
+    }
+
+    public static PhonePrefixDb getInstance() throws IOException {
+        if (instance == null) {
+            synchronized (PhonePrefixDb.class) {
+                if (instance == null) {
+                    instance = open(locate());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 库中只包含11位手机号，其他号码需要回退到libphonenumber
+     */
+    public boolean covers(long number) {
+        return number >= MIN_NUMBER && number <= MAX_NUMBER;
+    }
+
+    public String getDescription(long number) {
+        int prefix = (int) (number / SUFFIX_RANGE);
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (entries.getInt(HEADER_SIZE + mid * ENTRY_SIZE) <= prefix) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0) {
+            return null;
+        }
+        short index = entries.getShort(HEADER_SIZE + found * ENTRY_SIZE + 4);
+        return index == NONE ? null : strings[index];
+    }
+
+    static PhonePrefixDb open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new PhonePrefixDb(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            // 截断、过期的文件在解析时可能抛出各种unchecked异常，统一转成IOException，由调用方回退
+            throw new IOException("can not load phone prefix db " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private static File locate() throws IOException {
+        String path = System.getProperty(PATH_PROPERTY);
+        if (path != null && !path.isEmpty()) {
+            return new File(path);
+        }
+        File local = new File(FILE_NAME);
+        if (local.isFile()) {
+            return local;
+        }
+        return extract();
+    }
+
+    /**
+     * jar包内的资源无法直接映射，按内容校验和解压到节点级目录，同一节点上的jvm共用一份文件
+     */
+    private static File extract() throws IOException {
+        byte[] bytes;
+        try (InputStream in = PhonePrefixDb.class.getResourceAsStream(FILE_NAME)) {
+            if (in == null) {
+                throw new IOException("can not load phone prefix db, " + FILE_NAME
+                        + " not found in classpath and " + new File(FILE_NAME).getAbsolutePath() + " not exists");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            bytes = out.toByteArray();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        String name = "phone-prefix-" + Long.toHexString(crc.getValue()) + ".dat";
+        try {
+            return extract(new File(System.getProperty(DIR_PROPERTY, DEFAULT_DIR)), name, bytes);
+        } catch (IOException e) {
+            return extract(new File(System.getProperty("java.io.tmpdir")), name, bytes);
+        }
+    }
+
+    private static File extract(File dir, String name, byte[] bytes) throws IOException {
+        File target = new File(dir, name);
+        if (target.isFile() && target.length() == bytes.length) {
+            return target;
+        }
+        File tmp = File.createTempFile("phone-prefix-", ".tmp", dir);
+        try {
+            Files.write(tmp.toPath(), bytes);
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        return target;
+    }
+}
@@ -0,0 +1,137 @@
+package com.yang.freamwork.udf;
+
+import com.google.i18n.phonenumbers.Phonenumber;
+import com.google.i18n.phonenumbers.geocoding.PhoneNumberOfflineGeocoder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * 构建期生成手机号段二进制库，由maven在process-classes阶段调用，
+ * 输出文件随jar包一起发布，也可以通过add file放入分布式缓存
+ * 号段按尾号0000的号码生成，写完后在每个号段内随机抽取号码，通过{@link PhonePrefixDb}读回
+ * 与libphonenumber逐个比对，有不一致时删除输出文件并让构建失败
+ * 入参：输出文件路径
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @see PhonePrefixDb
+ * @since 2026/10/19
+ */
+public class PhonePrefixDbGenerator {
+
+    private static final int MIN_PREFIX = 1000000;
+    private static final int MAX_PREFIX = 1999999;
+    private static final int SAMPLES_PER_PREFIX = 3;
+    private static final long SAMPLE_SEED = 20261019L;
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("usage: PhonePrefixDbGenerator <output file>");
+        }
+        PhoneNumberOfflineGeocoder geoCoder = PhoneNumberOfflineGeocoder.getInstance();
+        Phonenumber.PhoneNumber pn = new Phonenumber.PhoneNumber();
+        pn.setCountryCode(86);
+
+        // 相邻号段归属地相同时合并为一条记录，只保存号段起点
+        Map<String, Short> strings = new LinkedHashMap<>();
+        List<int[]> entries = new ArrayList<>();
+        int lastGeo = Integer.MIN_VALUE;
+        for (int prefix = MIN_PREFIX; prefix <= MAX_PREFIX; prefix++) {
+            pn.setNationalNumber(prefix * PhonePrefixDb.SUFFIX_RANGE);
+            int geo = indexOf(strings, geoCoder.getDescriptionForNumber(pn, Locale.CHINESE));
+            if (geo != lastGeo) {
+                entries.add(new int[]{prefix, geo});
+                lastGeo = geo;
+            }
+        }
+
+        File output = new File(args[0]);
+        File parent = output.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("can not create directory " + parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(output)))) {
+            out.writeInt(PhonePrefixDb.MAGIC);
+            out.writeInt(PhonePrefixDb.VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(strings.size());
+            for (int[] entry : entries) {
+                out.writeInt(entry[0]);
+                out.writeShort(entry[1]);
+            }
+            for (String s : strings.keySet()) {
+                out.writeUTF(s);
+            }
+        }
+        System.out.println("write " + entries.size() + " prefix entries, "
+                + strings.size() + " strings to " + output);
+
+        int checked = verify(PhonePrefixDb.open(output), geoCoder, pn, output);
+        System.out.println("verify " + checked + " sampled numbers against libphonenumber, all matched");
+    }
+
+    /**
+     * 号段库假设同一号段内的号码归属地相同，随机抽样校验这一假设和文件读写
+     *
+     * @return 校验的号码数
+     */
+    private static int verify(PhonePrefixDb db, PhoneNumberOfflineGeocoder geoCoder,
+                              Phonenumber.PhoneNumber pn, File output) throws IOException {
+        Random random = new Random(SAMPLE_SEED);
+        List<String> mismatches = new ArrayList<>();
+        int mismatchCount = 0;
+        int checked = 0;
+        for (int prefix = MIN_PREFIX; prefix <= MAX_PREFIX; prefix++) {
+            for (int i = 0; i < SAMPLES_PER_PREFIX; i++) {
+                long number = prefix * PhonePrefixDb.SUFFIX_RANGE + random.nextInt((int) PhonePrefixDb.SUFFIX_RANGE);
+                pn.setNationalNumber(number);
+                String expected = geoCoder.getDescriptionForNumber(pn, Locale.CHINESE);
+                if (expected != null && expected.isEmpty()) {
+                    expected = null;
+                }
+                String actual = db.getDescription(number);
+                checked++;
+                if (!Objects.equals(expected, actual)) {
+                    if (mismatchCount++ < MAX_REPORTED_MISMATCHES) {
+                        mismatches.add(number + " expected `" + expected + "` but was `" + actual + "`");
+                    }
+                }
+            }
+        }
+        if (mismatchCount > 0) {
+            Files.deleteIfExists(output.toPath());
+            throw new IllegalStateException(mismatchCount + " of " + checked
+                    + " sampled numbers differ from libphonenumber, " + output + " deleted: " + mismatches);
+        }
+        return checked;
+    }
+
+    private static int indexOf(Map<String, Short> strings, String s) {
+        if (null == s || s.isEmpty()) {
+            return PhonePrefixDb.NONE;
+        }
+        Short index = strings.get(s);
+        if (index == null) {
+            if (strings.size() >= Short.MAX_VALUE) {
+                throw new IllegalStateException("too many distinct strings");
+            }
+            index = (short) strings.size();
+            strings.put(s, index);
+        }
+        return index;
+    }
+}
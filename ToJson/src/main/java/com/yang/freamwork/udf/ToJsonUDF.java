@@ -1,19 +1,26 @@
 package com.yang.freamwork.udf;
 
+import com.yang.freamwork.common.Converters;
+import com.yang.freamwork.common.UDFMetrics;
+import com.yang.freamwork.common.Utf8Slice;
+import org.apache.hadoop.hive.ql.exec.MapredContext;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
 import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.ByteStream;
 import org.apache.hadoop.hive.serde2.objectinspector.*;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.*;
+import org.apache.hadoop.io.Text;
+import org.codehaus.jackson.JsonEncoding;
 import org.codehaus.jackson.JsonFactory;
 import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SerializedString;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
 
 import java.io.IOException;
-import java.io.StringWriter;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +33,8 @@ import java.util.Map;
  *
  * @author yangfan
  * @version 1.0.0
+ * @version 1.0.1 增加运行指标上报
+ * @version 1.0.2 直接输出UTF-8字节，writable、lazy的string不再解码成String，struct字段名只转换一次
  * @since 2021/3/26
  */
 @SuppressWarnings("unused")
@@ -33,6 +42,9 @@ public class ToJsonUDF extends GenericUDF {
     private InspectorHandle insHandle;
     private Boolean convertFlag = Boolean.FALSE;
     private JsonFactory jsonFactory;
+    private final ByteStream.Output output = new ByteStream.Output();
+    private final Text result = new Text();
+    private final UDFMetrics metrics = new UDFMetrics("ToJsonUDF");
 
     private interface InspectorHandle {
         void generateJson(JsonGenerator gen, Object obj) throws IOException;
@@ -96,16 +108,18 @@ public class ToJsonUDF extends GenericUDF {
 
     private class StructInspectorHandle implements InspectorHandle {
         private StructObjectInspector structInspector;
-        private List<String> fieldNames;
+        private List<? extends StructField> fieldRefs;
+        private List<SerializedString> fieldNames;
         private List<InspectorHandle> fieldInspectorHandles;
 
         StructInspectorHandle(StructObjectInspector ins) throws UDFArgumentException {
             structInspector = ins;
-            List<? extends StructField> fieldList = ins.getAllStructFieldRefs();
+            fieldRefs = ins.getAllStructFieldRefs();
             this.fieldNames = new ArrayList<>();
             this.fieldInspectorHandles = new ArrayList<>();
-            for (StructField sf : fieldList) {
-                fieldNames.add(sf.getFieldName());
+            for (StructField sf : fieldRefs) {
+                String fieldName = convertFlag ? ToCamelCase(sf.getFieldName()) : sf.getFieldName();
+                fieldNames.add(new SerializedString(fieldName));
                 fieldInspectorHandles.add(GenerateInspectorHandle(sf.getFieldObjectInspector()));
             }
         }
@@ -116,16 +130,10 @@ public class ToJsonUDF extends GenericUDF {
                 gen.writeNull();
             } else {
                 gen.writeStartObject();
-                List structObs = structInspector.getStructFieldsDataAsList(obj);
-
                 for (int i = 0; i < fieldNames.size(); ++i) {
-                    String fieldName = fieldNames.get(i);
-                    if (convertFlag) {
-                        gen.writeFieldName(ToCamelCase(fieldName));
-                    } else {
-                        gen.writeFieldName(fieldName);
-                    }
-                    fieldInspectorHandles.get(i).generateJson(gen, structObs.get(i));
+                    gen.writeFieldName(fieldNames.get(i));
+                    fieldInspectorHandles.get(i).generateJson(gen,
+                            structInspector.getStructFieldData(obj, fieldRefs.get(i)));
                 }
                 gen.writeEndObject();
             }
@@ -158,15 +166,22 @@ public class ToJsonUDF extends GenericUDF {
 
     private class StringInspectorHandle implements InspectorHandle {
         private StringObjectInspector strInspector;
+        private Converters.Utf8Converter utf8Converter;
 
         StringInspectorHandle(StringObjectInspector ins) {
             strInspector = ins;
+            if (ins.preferWritable()) {
+                utf8Converter = Converters.utf8Converter(ins);
+            }
         }
 
         @Override
         public void generateJson(JsonGenerator gen, Object obj) throws IOException {
             if (obj == null) {
                 gen.writeNull();
+            } else if (utf8Converter != null) {
+                Utf8Slice slice = utf8Converter.convert(obj);
+                gen.writeUTF8String(slice.bytes(), slice.start(), slice.length());
             } else {
                 String str = strInspector.getPrimitiveJavaObject(obj);
                 gen.writeString(str);
@@ -380,9 +395,6 @@ public class ToJsonUDF extends GenericUDF {
         if (args.length != 1 && args.length != 2) {
             throw new UDFArgumentException(" ToJson takes an object as an argument, and an optional to_camel_case flag");
         }
-        ObjectInspector oi = args[0];
-        insHandle = GenerateInspectorHandle(oi);
-
         if (args.length == 2) {
             ObjectInspector flagIns = args[1];
             if (flagIns.getCategory() != Category.PRIMITIVE
@@ -395,25 +407,43 @@ public class ToJsonUDF extends GenericUDF {
             convertFlag = constIns.getWritableConstantValue().get();
         }
 
+        // struct字段名在构造时按convertFlag转换，需要先解析参数2
+        ObjectInspector oi = args[0];
+        insHandle = GenerateInspectorHandle(oi);
+
         jsonFactory = new JsonFactory();
 
-        return PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+        return PrimitiveObjectInspectorFactory.writableStringObjectInspector;
+    }
+
+    @Override
+    public void configure(MapredContext context) {
+        metrics.configure(context);
     }
 
     @Override
     public Object evaluate(DeferredObject[] args) throws HiveException {
+        long start = metrics.begin();
         try {
-            StringWriter writer = new StringWriter();
-            JsonGenerator gen = jsonFactory.createJsonGenerator(writer);
-            insHandle.generateJson(gen, args[0].get());
+            output.reset();
+            JsonGenerator gen = jsonFactory.createJsonGenerator(output, JsonEncoding.UTF8);
+            Object obj = args[0].get();
+            insHandle.generateJson(gen, obj);
             gen.close();
-            writer.close();
-            return writer.toString();
+            result.set(output.getData(), 0, output.getLength());
+            return metrics.end(start, result);
         } catch (IOException io) {
+            metrics.parseFailure();
+            metrics.end(start, null);
             throw new HiveException(io);
         }
     }
 
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
     @Override
     public String getDisplayString(String[] args) {
         return "to_json(" + args[0] + ")";
@@ -1,9 +1,22 @@
 package com.yang.freamwork.udf;
 
-import org.apache.hadoop.hive.ql.exec.UDF;
+import com.yang.freamwork.common.Converters;
+import com.yang.freamwork.common.UDFMetrics;
+import com.yang.freamwork.common.Utf8Index;
+import com.yang.freamwork.common.Utf8Slice;
+import com.yang.freamwork.common.Utf8Tokenizer;
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
 
-import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.regex.Pattern;
 
 /**
  * 遍历传入数组，将其转为目标向量数组的稀疏数组（XGBoost模型）
@@ -15,49 +28,139 @@ import java.util.*;
  * @author yangfan
  * @version 1.0.0
  * @version 1.0.1 增加支持输出数组为稀疏数组的功能
+ * @version 1.0.2 增加运行指标上报，改为GenericUDF以便在configure、close中上报
+ * @version 1.0.3 initialize时选定转换方式，string参数直接在字节上切分，不经过Text转换；目标向量只构建一次索引
  * @since 2021/3/18
  */
 @SuppressWarnings("unused")
-public class XGBoostVector2SpArrayUDF extends UDF {
+public class XGBoostVector2SpArrayUDF extends GenericUDF {
 
-    private Map<String, Double> targetMap;
+    private final UDFMetrics metrics = new UDFMetrics("XGBoostVector2SpArrayUDF");
+    private final Converters.Utf8Converter[] converters = new Converters.Utf8Converter[3];
+    private Utf8Index target;
+    private Utf8Tokenizer tokenizer;
+    private Pattern pattern;
+    private int[] stamps;
+    private int[] hits;
+    private int stamp;
 
-    public List<List<Double>> evaluate(String str1,
-                                       @Nonnull String str2,
-                                       @Nonnull String regex) {
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] argOIs) throws UDFArgumentException {
+        if (argOIs.length != 3) {
+            throw new UDFArgumentException("args length mast be 3 !");
+        }
+        for (int i = 0; i < argOIs.length; i++) {
+            if (argOIs[i].getCategory() != ObjectInspector.Category.PRIMITIVE) {
+                throw new UDFArgumentException("args " + i + " mast be a `PRIMITIVE` type");
+            }
+            converters[i] = Converters.utf8Converter((PrimitiveObjectInspector) argOIs[i]);
+        }
+        return ObjectInspectorFactory.getStandardListObjectInspector(
+                ObjectInspectorFactory.getStandardListObjectInspector(
+                        PrimitiveObjectInspectorFactory.javaDoubleObjectInspector));
+    }
+
+    @Override
+    public void configure(MapredContext context) {
+        metrics.configure(context);
+    }
+
+    @Override
+    public Object evaluate(DeferredObject[] args) throws HiveException {
+        long start = metrics.begin();
+        Utf8Slice str1 = converters[0].convert(args[0].get());
         if (null == str1 || str1.length() == 0) {
-            return null;
+            return metrics.end(start, null);
         }
-        if (null == targetMap) {
-            targetMap = new LinkedHashMap<>();
-            for (String s : str2.split(regex)) {
-                targetMap.put(s, 0d);
+        if (null == target) {
+            // 目标向量、分隔符取第一行的值，之后不再读取
+            Utf8Slice str2 = converters[1].convert(args[1].get());
+            Utf8Slice regex = converters[2].convert(args[2].get());
+            if (null == str2 || null == regex) {
+                throw new HiveException("args 1 and 2 mast not be null");
             }
+            initTarget(str2, regex.toString());
         }
-        Map<String, Double> map = new LinkedHashMap<String, Double>() {{
-            putAll(targetMap);
-        }};
-        for (String s : str1.split(regex)) {
-            if (map.containsKey(s)) {
-                map.put(s, 1d);
+        return metrics.end(start, toSparse(str1));
+    }
+
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
+    /**
+     * 目标向量按第一次出现的顺序编号，与原LinkedHashMap的顺序一致；
+     * 分隔符含正则元字符时仍按正则切分，Pattern只编译一次
+     */
+    private void initTarget(Utf8Slice str2, String regex) {
+        target = new Utf8Index();
+        if (Utf8Tokenizer.isLiteral(regex)) {
+            tokenizer = new Utf8Tokenizer(regex);
+            tokenizer.reset(str2.bytes(), str2.start(), str2.end());
+            while (tokenizer.next()) {
+                target.add(str2.bytes(), tokenizer.start(), tokenizer.end());
             }
+        } else {
+            pattern = Pattern.compile(regex);
+            for (String s : pattern.split(str2.toString())) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                target.add(bytes, 0, bytes.length);
+            }
+        }
+        stamps = new int[target.size()];
+        hits = new int[target.size()];
+    }
+
+    private List<List<Double>> toSparse(Utf8Slice str1) {
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
         }
-        List<List<Double>> sparse = new ArrayList<>();
-        Double[] array = map.values().toArray(new Double[targetMap.size()]);
-        sparse.add(Arrays.asList(-1d, (double) array.length));
-        for (int i = 0; i < array.length; i++) {
-            if (array[i] != 0d) {
-                sparse.add(Arrays.asList((double) i, array[i]));
+        int count = 0;
+        if (tokenizer != null) {
+            byte[] bytes = str1.bytes();
+            tokenizer.reset(bytes, str1.start(), str1.end());
+            while (tokenizer.next()) {
+                count = hit(target.indexOf(bytes, tokenizer.start(), tokenizer.end()), count);
+            }
+        } else {
+            for (String s : pattern.split(str1.toString())) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                count = hit(target.indexOf(bytes, 0, bytes.length), count);
             }
         }
+        Arrays.sort(hits, 0, count);
+        List<List<Double>> sparse = new ArrayList<>(count + 1);
+        sparse.add(Arrays.asList(-1d, (double) target.size()));
+        for (int i = 0; i < count; i++) {
+            sparse.add(Arrays.asList((double) hits[i], 1d));
+        }
         return sparse;
     }
 
-    public static void main(String[] args) {
+    private int hit(int index, int count) {
+        if (index >= 0 && stamps[index] != stamp) {
+            stamps[index] = stamp;
+            hits[count++] = index;
+        }
+        return count;
+    }
+
+    @Override
+    public String getDisplayString(String[] strings) {
+        return "vector_trans(" + String.join(", ", strings) + ")";
+    }
+
+    public static void main(String[] args) throws HiveException {
         XGBoostVector2SpArrayUDF udf = new XGBoostVector2SpArrayUDF();
-        List<List<Double>> result1 = udf.evaluate("1,6", "1,2,3,4,5,6", ",");
-        List<List<Double>> result2 = udf.evaluate(null, "1,2,3,4,5,6", ",");
+        ObjectInspector stringOI = PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+        udf.initialize(new ObjectInspector[]{stringOI, stringOI, stringOI});
+        Object result1 = udf.evaluate(new DeferredObject[]{new DeferredJavaObject("1,6"),
+                new DeferredJavaObject("1,2,3,4,5,6"), new DeferredJavaObject(",")});
+        Object result2 = udf.evaluate(new DeferredObject[]{new DeferredJavaObject(null),
+                new DeferredJavaObject("1,2,3,4,5,6"), new DeferredJavaObject(",")});
         System.out.println(result1);
         System.out.println(result2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.yang.freamwork.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试数据生成，固定随机种子，保证每次运行的输入一致
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class BenchmarkData {
+
+    /**
+     * 每个基准测试循环使用的行数，必须是2的幂
+     */
+    static final int ROWS = 1024;
+
+    private static final long SEED = 20210330L;
+    private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final Random random = new Random(SEED);
+
+    String word(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = LETTERS[random.nextInt(LETTERS.length)];
+        }
+        return new String(chars);
+    }
+
+    String[] vocabulary(int size) {
+        String[] vocab = new String[size];
+        for (int i = 0; i < size; i++) {
+            vocab[i] = "f" + i;
+        }
+        return vocab;
+    }
+
+    String pick(String[] vocab, int count, String delimiter) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(delimiter);
+            }
+            sb.append(vocab[random.nextInt(vocab.length)]);
+        }
+        return sb.toString();
+    }
+
+    double lon() {
+        return 73D + random.nextDouble() * 62D;
+    }
+
+    double lat() {
+        return 18D + random.nextDouble() * 35D;
+    }
+
+    long phone() {
+        return 13000000000L + (long) (random.nextDouble() * 6000000000L);
+    }
+
+    Map<String, String> stringMap(int size) {
+        Map<String, String> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put("k" + i, String.valueOf(random.nextInt(1000)));
+        }
+        return map;
+    }
+
+    Map<String, Double> doubleMap(int size) {
+        Map<String, Double> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(word(8), random.nextDouble());
+        }
+        return map;
+    }
+
+    List<List<Double>> matrix(int rows, int cols) {
+        List<List<Double>> matrix = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<Double> row = new ArrayList<>(cols);
+            for (int j = 0; j < cols; j++) {
+                row.add(random.nextDouble());
+            }
+            matrix.add(row);
+        }
+        return matrix;
+    }
+
+    /**
+     * 对应类型：struct&lt;id:bigint,name:string,score:double,tags:array&lt;string&gt;,attrs:map&lt;string,int&gt;&gt;
+     */
+    List<Object> struct() {
+        List<String> tags = new ArrayList<>(5);
+        for (int i = 0; i < 5; i++) {
+            tags.add(word(6));
+        }
+        Map<String, Integer> attrs = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            attrs.put(word(4), random.nextInt(100));
+        }
+        return Arrays.asList(random.nextLong(), word(12), random.nextDouble(), tags, attrs);
+    }
+}
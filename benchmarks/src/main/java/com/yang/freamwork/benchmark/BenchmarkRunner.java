@@ -0,0 +1,27 @@
+package com.yang.freamwork.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行全部或按正则匹配的基准测试，同时开启GC profiler，
+ * 输出每个操作的吞吐量以及内存分配（gc.alloc.rate.norm，单位：字节/op）
+ * 例：java -jar benchmarks-1.0-SNAPSHOT-jar-with-dependencies.jar ToJson
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
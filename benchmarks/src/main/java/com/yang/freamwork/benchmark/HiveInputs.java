@@ -0,0 +1,132 @@
+package com.yang.freamwork.benchmark;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.SerDeException;
+import org.apache.hadoop.hive.serde2.lazy.ByteArrayRef;
+import org.apache.hadoop.hive.serde2.lazy.LazyFactory;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.hive.serde2.lazy.LazyStruct;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils.ObjectInspectorCopyOption;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.io.Text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 将java对象形式的测试数据按{@link InspectorKind}转换成对应的ObjectInspector和行数据
+ * lazy数据先用LazySimpleSerDe序列化成text，再为每行创建独立的LazyStruct，与读取text表一致
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class HiveInputs {
+
+    final ObjectInspector[] inspectors;
+    final Object[][] rows;
+
+    private HiveInputs(ObjectInspector[] inspectors, Object[][] rows) {
+        this.inspectors = inspectors;
+        this.rows = rows;
+    }
+
+    /**
+     * @param kind     ObjectInspector类型
+     * @param types    每列的hive类型，如：map&lt;string,string&gt;
+     * @param javaRows java对象形式的行数据
+     */
+    static HiveInputs of(InspectorKind kind, String[] types, List<Object[]> javaRows)
+            throws SerDeException {
+        ObjectInspector[] javaOIs = new ObjectInspector[types.length];
+        for (int i = 0; i < types.length; i++) {
+            TypeInfo typeInfo = TypeInfoUtils.getTypeInfoFromTypeString(types[i]);
+            javaOIs[i] = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(typeInfo);
+        }
+        switch (kind) {
+            case JAVA:
+                return new HiveInputs(javaOIs, javaRows.toArray(new Object[0][]));
+            case WRITABLE:
+                return toWritable(javaOIs, javaRows);
+            case LAZY:
+                return toLazy(types, javaOIs, javaRows);
+            default:
+                throw new IllegalArgumentException("unknown inspector kind " + kind);
+        }
+    }
+
+    GenericUDF.DeferredObject[][] deferred() {
+        GenericUDF.DeferredObject[][] deferred = new GenericUDF.DeferredObject[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            deferred[i] = new GenericUDF.DeferredObject[rows[i].length];
+            for (int j = 0; j < rows[i].length; j++) {
+                deferred[i][j] = new GenericUDF.DeferredJavaObject(rows[i][j]);
+            }
+        }
+        return deferred;
+    }
+
+    private static HiveInputs toWritable(ObjectInspector[] javaOIs, List<Object[]> javaRows) {
+        ObjectInspector[] inspectors = new ObjectInspector[javaOIs.length];
+        for (int i = 0; i < javaOIs.length; i++) {
+            inspectors[i] = ObjectInspectorUtils.getStandardObjectInspector(
+                    javaOIs[i], ObjectInspectorCopyOption.WRITABLE);
+        }
+        Object[][] rows = new Object[javaRows.size()][];
+        for (int r = 0; r < rows.length; r++) {
+            Object[] javaRow = javaRows.get(r);
+            rows[r] = new Object[javaRow.length];
+            for (int i = 0; i < javaRow.length; i++) {
+                rows[r][i] = ObjectInspectorUtils.copyToStandardObject(
+                        javaRow[i], javaOIs[i], ObjectInspectorCopyOption.WRITABLE);
+            }
+        }
+        return new HiveInputs(inspectors, rows);
+    }
+
+    private static HiveInputs toLazy(String[] types, ObjectInspector[] javaOIs,
+                                     List<Object[]> javaRows) throws SerDeException {
+        List<String> names = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            names.add("c" + i);
+        }
+        Properties props = new Properties();
+        props.setProperty(serdeConstants.LIST_COLUMNS, String.join(",", names));
+        props.setProperty(serdeConstants.LIST_COLUMN_TYPES, String.join(":", types));
+        LazySimpleSerDe serde = new LazySimpleSerDe();
+        serde.initialize(new Configuration(), props);
+
+        StructObjectInspector javaRowOI = ObjectInspectorFactory
+                .getStandardStructObjectInspector(names, Arrays.asList(javaOIs));
+        StructObjectInspector lazyRowOI = (StructObjectInspector) serde.getObjectInspector();
+        List<? extends StructField> fields = lazyRowOI.getAllStructFieldRefs();
+        ObjectInspector[] inspectors = new ObjectInspector[types.length];
+        for (int i = 0; i < types.length; i++) {
+            inspectors[i] = fields.get(i).getFieldObjectInspector();
+        }
+
+        Object[][] rows = new Object[javaRows.size()][];
+        for (int r = 0; r < rows.length; r++) {
+            Text text = (Text) serde.serialize(Arrays.asList(javaRows.get(r)), javaRowOI);
+            ByteArrayRef ref = new ByteArrayRef();
+            ref.setData(Arrays.copyOf(text.getBytes(), text.getLength()));
+            LazyStruct struct = (LazyStruct) LazyFactory.createLazyObject(lazyRowOI);
+            struct.init(ref, 0, text.getLength());
+            rows[r] = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                rows[r][i] = lazyRowOI.getStructFieldData(struct, fields.get(i));
+            }
+        }
+        return new HiveInputs(inspectors, rows);
+    }
+}
@@ -0,0 +1,17 @@
+package com.yang.freamwork.benchmark;
+
+/**
+ * 基准测试输入数据的ObjectInspector类型
+ * JAVA：java对象，如UDF直接调用、spark
+ * WRITABLE：hadoop writable对象，如orc、parquet表
+ * LAZY：LazySimpleSerDe反序列化的lazy对象，如text表
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public enum InspectorKind {
+    JAVA,
+    WRITABLE,
+    LAZY
+}
@@ -0,0 +1,85 @@
+package com.yang.freamwork.benchmark;
+
+import com.yang.freamwork.udf.LonLatDistanceUDF;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LonLatDistanceUDF基准测试
+ * DOUBLE4：4个double参数
+ * STRING4：4个string参数
+ * STRING2：2个string参数，经纬度以逗号分隔
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LonLatDistanceUDFBenchmark {
+
+    public enum Overload {
+        DOUBLE4,
+        STRING4,
+        STRING2
+    }
+
+    @Param
+    public Overload overload;
+
+    @Param
+    public InspectorKind inspector;
+
+    private LonLatDistanceUDF udf;
+    private GenericUDF.DeferredObject[][] args;
+    private int cursor;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        List<Object[]> javaRows = new ArrayList<>(BenchmarkData.ROWS);
+        for (int i = 0; i < BenchmarkData.ROWS; i++) {
+            double lon1 = data.lon();
+            double lat1 = data.lat();
+            double lon2 = data.lon();
+            double lat2 = data.lat();
+            switch (overload) {
+                case DOUBLE4:
+                    javaRows.add(new Object[]{lon1, lat1, lon2, lat2});
+                    break;
+                case STRING4:
+                    javaRows.add(new Object[]{String.valueOf(lon1), String.valueOf(lat1),
+                            String.valueOf(lon2), String.valueOf(lat2)});
+                    break;
+                default:
+                    javaRows.add(new Object[]{lon1 + "," + lat1, lon2 + "," + lat2});
+            }
+        }
+        String type = overload == Overload.DOUBLE4 ? "double" : "string";
+        int arity = overload == Overload.STRING2 ? 2 : 4;
+        String[] types = new String[arity];
+        for (int i = 0; i < arity; i++) {
+            types[i] = type;
+        }
+        HiveInputs inputs = HiveInputs.of(inspector, types, javaRows);
+        udf = new LonLatDistanceUDF();
+        udf.initialize(inputs.inspectors);
+        args = inputs.deferred();
+    }
+
+    @Benchmark
+    public Object evaluate() throws HiveException {
+        GenericUDF.DeferredObject[] row = args[cursor];
+        cursor = (cursor + 1) & (BenchmarkData.ROWS - 1);
+        return udf.evaluate(row);
+    }
+}
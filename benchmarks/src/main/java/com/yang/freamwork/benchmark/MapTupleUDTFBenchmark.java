@@ -0,0 +1,87 @@
+package com.yang.freamwork.benchmark;
+
+import com.yang.freamwork.udf.MapTupleUDTF;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.Text;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapTupleUDTF基准测试：小map（10个key）、宽map（1000个key），每行取3个key（含1个不存在的key）
+ * constantKeys=true：key参数与sql中的字面量一致，是writable的常量；false：key来自非常量的java string列
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapTupleUDTFBenchmark {
+
+    @Param({"10", "1000"})
+    public int mapSize;
+
+    @Param
+    public InspectorKind inspector;
+
+    @Param({"true", "false"})
+    public boolean constantKeys;
+
+    private MapTupleUDTF udtf;
+    private Object[][] args;
+    private int cursor;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        List<Object[]> javaRows = new ArrayList<>(BenchmarkData.ROWS);
+        for (int i = 0; i < BenchmarkData.ROWS; i++) {
+            javaRows.add(new Object[]{data.stringMap(mapSize)});
+        }
+        HiveInputs inputs = HiveInputs.of(inspector, new String[]{"map<string,string>"}, javaRows);
+
+        String[] keys = {"k0", "k" + (mapSize / 2), "missing"};
+        ObjectInspector[] argOIs = new ObjectInspector[keys.length + 1];
+        Object[] keyValues = new Object[keys.length];
+        argOIs[0] = inputs.inspectors[0];
+        for (int i = 0; i < keys.length; i++) {
+            if (constantKeys) {
+                Text key = new Text(keys[i]);
+                argOIs[i + 1] = PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                        TypeInfoFactory.stringTypeInfo, key);
+                keyValues[i] = key;
+            } else {
+                argOIs[i + 1] = PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+                keyValues[i] = keys[i];
+            }
+        }
+        args = new Object[BenchmarkData.ROWS][];
+        for (int r = 0; r < BenchmarkData.ROWS; r++) {
+            args[r] = new Object[argOIs.length];
+            args[r][0] = inputs.rows[r][0];
+            System.arraycopy(keyValues, 0, args[r], 1, keyValues.length);
+        }
+
+        udtf = new MapTupleUDTF();
+        udtf.initialize(argOIs);
+        udtf.setCollector(blackhole::consume);
+    }
+
+    @Benchmark
+    public void process() throws HiveException {
+        Object[] row = args[cursor];
+        cursor = (cursor + 1) & (BenchmarkData.ROWS - 1);
+        udtf.process(row);
+    }
+}
@@ -0,0 +1,56 @@
+package com.yang.freamwork.benchmark;
+
+import com.yang.freamwork.udf.PhoneNumberGeoUDF;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhoneNumberGeoUDF基准测试，手机号分别以bigint、string类型传入
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhoneNumberGeoUDFBenchmark {
+
+    @Param({"bigint", "string"})
+    public String type;
+
+    @Param
+    public InspectorKind inspector;
+
+    private PhoneNumberGeoUDF udf;
+    private GenericUDF.DeferredObject[][] args;
+    private int cursor;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        List<Object[]> javaRows = new ArrayList<>(BenchmarkData.ROWS);
+        for (int i = 0; i < BenchmarkData.ROWS; i++) {
+            long phone = data.phone();
+            javaRows.add(new Object[]{"bigint".equals(type) ? (Object) phone : String.valueOf(phone)});
+        }
+        HiveInputs inputs = HiveInputs.of(inspector, new String[]{type}, javaRows);
+        udf = new PhoneNumberGeoUDF();
+        udf.initialize(inputs.inspectors);
+        args = inputs.deferred();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        GenericUDF.DeferredObject[] row = args[cursor];
+        cursor = (cursor + 1) & (BenchmarkData.ROWS - 1);
+        return udf.evaluate(row);
+    }
+}
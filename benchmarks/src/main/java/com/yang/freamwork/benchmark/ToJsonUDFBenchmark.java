@@ -0,0 +1,77 @@
+package com.yang.freamwork.benchmark;
+
+import com.yang.freamwork.udf.ToJsonUDF;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ToJsonUDF基准测试：嵌套struct、map、二维数组
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToJsonUDFBenchmark {
+
+    public enum Shape {
+        STRUCT("struct<id:bigint,name:string,score:double,tags:array<string>,attrs:map<string,int>>"),
+        MAP("map<string,double>"),
+        ARRAY("array<array<double>>");
+
+        private final String type;
+
+        Shape(String type) {
+            this.type = type;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    @Param
+    public InspectorKind inspector;
+
+    private ToJsonUDF udf;
+    private GenericUDF.DeferredObject[][] args;
+    private int cursor;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        List<Object[]> javaRows = new ArrayList<>(BenchmarkData.ROWS);
+        for (int i = 0; i < BenchmarkData.ROWS; i++) {
+            switch (shape) {
+                case STRUCT:
+                    javaRows.add(new Object[]{data.struct()});
+                    break;
+                case MAP:
+                    javaRows.add(new Object[]{data.doubleMap(20)});
+                    break;
+                default:
+                    javaRows.add(new Object[]{data.matrix(10, 10)});
+            }
+        }
+        HiveInputs inputs = HiveInputs.of(inspector, new String[]{shape.type}, javaRows);
+        udf = new ToJsonUDF();
+        udf.initialize(inputs.inspectors);
+        args = inputs.deferred();
+    }
+
+    @Benchmark
+    public Object evaluate() throws HiveException {
+        GenericUDF.DeferredObject[] row = args[cursor];
+        cursor = (cursor + 1) & (BenchmarkData.ROWS - 1);
+        return udf.evaluate(row);
+    }
+}
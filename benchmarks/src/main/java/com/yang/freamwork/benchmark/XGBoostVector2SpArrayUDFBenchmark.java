@@ -0,0 +1,81 @@
+package com.yang.freamwork.benchmark;
+
+import com.yang.freamwork.udf.XGBoostVector2SpArrayUDF;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XGBoostVector2SpArrayUDF基准测试，目标向量1千~10万维，每行命中50个特征
+ * 目标向量字符串较大，这里只循环使用64行数据
+ * 分隔符：单字节","、多字节"::"、转义的"\\|"直接按字节切分，"[,;]"是正则，走Pattern切分
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XGBoostVector2SpArrayUDFBenchmark {
+
+    private static final int ROWS = 64;
+    private static final int FEATURES_PER_ROW = 50;
+
+    @Param({"1000", "10000", "100000"})
+    public int vocabSize;
+
+    @Param({",", "::", "\\|", "[,;]"})
+    public String delimiter;
+
+    @Param
+    public InspectorKind inspector;
+
+    private XGBoostVector2SpArrayUDF udf;
+    private GenericUDF.DeferredObject[][] args;
+    private int cursor;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        String[] vocab = data.vocabulary(vocabSize);
+        String separator = separator(delimiter);
+        String target = String.join(separator, vocab);
+        List<Object[]> javaRows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            javaRows.add(new Object[]{data.pick(vocab, FEATURES_PER_ROW, separator), target, delimiter});
+        }
+        HiveInputs inputs = HiveInputs.of(inspector, new String[]{"string", "string", "string"}, javaRows);
+        udf = new XGBoostVector2SpArrayUDF();
+        udf.initialize(inputs.inspectors);
+        args = inputs.deferred();
+    }
+
+    /**
+     * 拼接数据时实际使用的分隔符：转义的分隔符去掉反斜杠，正则[,;]使用分号
+     */
+    private static String separator(String delimiter) {
+        switch (delimiter) {
+            case "\\|":
+                return "|";
+            case "[,;]":
+                return ";";
+            default:
+                return delimiter;
+        }
+    }
+
+    @Benchmark
+    public Object evaluate() throws HiveException {
+        GenericUDF.DeferredObject[] row = args[cursor];
+        cursor = (cursor + 1) & (ROWS - 1);
+        return udf.evaluate(row);
+    }
+}
@@ -0,0 +1,116 @@
+package com.yang.freamwork.common;
+
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.StringObjectInspector;
+
+/**
+ * 在initialize时按ObjectInspector类型选定转换方式，evaluate时不再逐行判断类型
+ * string类型的writable、lazy对象直接使用底层Text的字节，不解码成String
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class Converters {
+
+    public interface LongConverter {
+        /**
+         * @throws NumberFormatException 无法转换为long
+         */
+        long convert(Object o);
+    }
+
+    public interface DoubleConverter {
+        /**
+         * @throws NumberFormatException 无法转换为double
+         */
+        double convert(Object o);
+    }
+
+    public interface Utf8Converter {
+        /**
+         * @return 复用的Utf8Slice，只在下次调用前有效；o为null时返回null
+         */
+        Utf8Slice convert(Object o);
+    }
+
+    public interface StringConverter {
+        String convert(Object o);
+    }
+
+    private Converters() {
+    }
+
+    private static boolean isWritableString(PrimitiveObjectInspector oi) {
+        return oi.getPrimitiveCategory() == PrimitiveCategory.STRING && oi.preferWritable();
+    }
+
+    /**
+     * 整数类型直接取值，string按字节解析，其他类型按字符串形式解析
+     */
+    public static LongConverter longConverter(final PrimitiveObjectInspector oi) {
+        switch (oi.getPrimitiveCategory()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return o -> PrimitiveObjectInspectorUtils.getLong(o, oi);
+            case STRING:
+                final StringObjectInspector soi = (StringObjectInspector) oi;
+                if (oi.preferWritable()) {
+                    final Utf8Slice slice = new Utf8Slice();
+                    return o -> slice.set(soi.getPrimitiveWritableObject(o)).parseLong();
+                }
+                return o -> Long.parseLong(soi.getPrimitiveJavaObject(o));
+            default:
+                return o -> Long.parseLong(String.valueOf(o));
+        }
+    }
+
+    /**
+     * 数值类型直接取值，string按字节解析，其他类型按字符串形式解析
+     */
+    public static DoubleConverter doubleConverter(final PrimitiveObjectInspector oi) {
+        switch (oi.getPrimitiveCategory()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case DECIMAL:
+                return o -> PrimitiveObjectInspectorUtils.getDouble(o, oi);
+            case STRING:
+                final StringObjectInspector soi = (StringObjectInspector) oi;
+                if (oi.preferWritable()) {
+                    final Utf8Slice slice = new Utf8Slice();
+                    return o -> slice.set(soi.getPrimitiveWritableObject(o)).parseDouble();
+                }
+                return o -> Double.parseDouble(soi.getPrimitiveJavaObject(o));
+            default:
+                return o -> Double.parseDouble(PrimitiveObjectInspectorUtils.getString(o, oi));
+        }
+    }
+
+    public static Utf8Converter utf8Converter(final PrimitiveObjectInspector oi) {
+        final Utf8Slice slice = new Utf8Slice();
+        if (isWritableString(oi)) {
+            final StringObjectInspector soi = (StringObjectInspector) oi;
+            return o -> o == null ? null : slice.set(soi.getPrimitiveWritableObject(o));
+        }
+        return o -> {
+            String s = o == null ? null : PrimitiveObjectInspectorUtils.getString(o, oi);
+            return s == null ? null : slice.set(s);
+        };
+    }
+
+    public static StringConverter stringConverter(final PrimitiveObjectInspector oi) {
+        if (oi.getPrimitiveCategory() == PrimitiveCategory.STRING) {
+            final StringObjectInspector soi = (StringObjectInspector) oi;
+            return soi::getPrimitiveJavaObject;
+        }
+        return o -> PrimitiveObjectInspectorUtils.getString(o, oi);
+    }
+}
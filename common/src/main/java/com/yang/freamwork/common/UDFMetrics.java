@@ -0,0 +1,135 @@
+package com.yang.freamwork.common;
+
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.mapred.Reporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * UDF运行指标：处理行数、返回NULL的行数、解析失败次数、采样耗时，
+ * 通过MapredContext的Reporter上报为job counter（分组：HIVE_UDF，名称：UDF名.指标名）
+ * 没有Reporter时（如spark、本地测试）在实例内汇总，第一次上报及之后每64次上报（约26万行）输出一次累计值到日志，
+ * close时再输出最终值；spark的GenericUDF不会调用close，只能看到最后一次周期输出
+ * <p>
+ * UDF实例只会被一个线程使用，计数器为普通字段，每行只有几次自增，
+ * 耗时每1024行采样一次，每4096行增量上报一次，close时上报剩余部分
+ * 例：
+ * long start = metrics.begin();
+ * ...
+ * return metrics.end(start, result);
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class UDFMetrics {
+
+    public static final String GROUP = "HIVE_UDF";
+
+    private static final Logger LOG = LoggerFactory.getLogger(UDFMetrics.class);
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private static final long SAMPLE_MASK = 1023L;
+    private static final long FLUSH_MASK = 4095L;
+    private static final long LOG_MASK = 63L;
+
+    private static final String[] NAMES = {"ROWS", "NULLS", "PARSE_FAILURES", "SAMPLED_ROWS", "SAMPLED_NANOS"};
+    private static final int ROWS = 0;
+    private static final int NULLS = 1;
+    private static final int PARSE_FAILURES = 2;
+    private static final int SAMPLED_ROWS = 3;
+    private static final int SAMPLED_NANOS = 4;
+
+    private final String name;
+    private final long[] pending = new long[NAMES.length];
+    private final long[] localTotals = new long[NAMES.length];
+    private Reporter reporter;
+    private long rows;
+    private long flushedRows;
+    private long localFlushes;
+
+    public UDFMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * GenericUDF、GenericUDTF在configure中调用，未调用时首次上报前从MapredContext.get()获取
+     */
+    public void configure(MapredContext context) {
+        if (context != null) {
+            setReporter(context.getReporter());
+        }
+    }
+
+    void setReporter(Reporter reporter) {
+        this.reporter = reporter;
+    }
+
+    public long begin() {
+        if ((rows++ & SAMPLE_MASK) == 0) {
+            return System.nanoTime();
+        }
+        return NOT_SAMPLED;
+    }
+
+    public <T> T end(long start, T result) {
+        if (start != NOT_SAMPLED) {
+            pending[SAMPLED_NANOS] += System.nanoTime() - start;
+            pending[SAMPLED_ROWS]++;
+        }
+        if (result == null) {
+            pending[NULLS]++;
+        }
+        if ((rows & FLUSH_MASK) == 0) {
+            flush(false);
+        }
+        return result;
+    }
+
+    public void parseFailure() {
+        pending[PARSE_FAILURES]++;
+    }
+
+    public void close() {
+        flush(true);
+    }
+
+    private void flush(boolean closing) {
+        pending[ROWS] = rows - flushedRows;
+        flushedRows = rows;
+        if (reporter == null) {
+            MapredContext context = MapredContext.get();
+            if (context != null) {
+                reporter = context.getReporter();
+            }
+        }
+        if (reporter != null) {
+            // 拿到Reporter之前本地汇总的部分一起上报
+            for (int i = 0; i < NAMES.length; i++) {
+                pending[i] += localTotals[i];
+                localTotals[i] = 0;
+                if (pending[i] != 0) {
+                    reporter.incrCounter(GROUP, name + "." + NAMES[i], pending[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < NAMES.length; i++) {
+                localTotals[i] += pending[i];
+            }
+            if (rows > 0 && ((localFlushes++ & LOG_MASK) == 0 || closing)) {
+                logLocalTotals();
+            }
+        }
+        for (int i = 0; i < NAMES.length; i++) {
+            pending[i] = 0;
+        }
+    }
+
+    private void logLocalTotals() {
+        StringBuilder sb = new StringBuilder(name);
+        for (int i = 0; i < NAMES.length; i++) {
+            sb.append(' ').append(NAMES[i]).append('=').append(localTotals[i]);
+        }
+        LOG.info(sb.toString());
+    }
+}
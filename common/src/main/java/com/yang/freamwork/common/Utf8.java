@@ -0,0 +1,146 @@
+package com.yang.freamwork.common;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 直接在UTF-8字节（Text、LazyString的底层数组）上解析数字、查找分隔符，避免先解码成String
+ * 常见的纯数字格式走快速路径，不分配内存；其他格式（空白、科学计数法、非ASCII数字等）
+ * 回退到Long.parseLong、Double.parseDouble，保证结果和异常与原方法一致
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class Utf8 {
+
+    private static final int MAX_FAST_DIGITS = 18;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Utf8() {
+    }
+
+    /**
+     * 解析[start, end)范围内的long，语义同Long.parseLong
+     *
+     * @throws NumberFormatException 格式错误
+     */
+    public static long parseLong(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        int digits = end - i;
+        if (digits <= 0 || digits > MAX_FAST_DIGITS) {
+            return Long.parseLong(decode(bytes, start, end));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int d = bytes[i] - '0';
+            if (d < 0 || d > 9) {
+                return Long.parseLong(decode(bytes, start, end));
+            }
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 解析[start, end)范围内的double，语义同Double.parseDouble
+     * 快速路径：[+-]整数部分[.小数部分]，有效数字不超过2^53且小数位不超过22位时，
+     * 一次精确除法得到的结果与Double.parseDouble一致
+     *
+     * @throws NumberFormatException 格式错误
+     */
+    public static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (++digits > MAX_FAST_DIGITS) {
+                    return Double.parseDouble(decode(bytes, start, end));
+                }
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(decode(bytes, start, end));
+            }
+        }
+        if (digits == 0 || mantissa >= MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(decode(bytes, start, end));
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * 在[from, end)范围内查找pattern第一次出现的位置，找不到返回-1
+     */
+    public static int indexOf(byte[] bytes, int from, int end, byte[] pattern) {
+        if (pattern.length == 1) {
+            byte first = pattern[0];
+            for (int i = from; i < end; i++) {
+                if (bytes[i] == first) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = from, last = end - pattern.length; i <= last; i++) {
+            if (startsWith(bytes, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static boolean startsWith(byte[] bytes, int from, byte[] pattern) {
+        for (int j = 0; j < pattern.length; j++) {
+            if (bytes[from + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean equals(byte[] a, int aStart, int aLength, byte[] b, int bStart, int bLength) {
+        if (aLength != bLength) {
+            return false;
+        }
+        for (int i = 0; i < aLength; i++) {
+            if (a[aStart + i] != b[bStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int hash(byte[] bytes, int start, int end) {
+        int h = 1;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    public static String decode(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+}
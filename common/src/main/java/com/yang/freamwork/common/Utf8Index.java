@@ -0,0 +1,99 @@
+package com.yang.freamwork.common;
+
+import java.util.Arrays;
+
+/**
+ * UTF-8字节串到插入序号的哈希索引（开放寻址），用于按字节区间查找，查找时不创建String
+ * key的字节统一复制到内部数组，重复的key保留第一次插入的序号
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class Utf8Index {
+
+    private byte[] data = new byte[64];
+    private int dataLength;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+    private int[] table = newTable(32);
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        return table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 清空后复用已分配的数组，用于每行重建的索引
+     */
+    public void clear() {
+        Arrays.fill(table, -1);
+        size = 0;
+        dataLength = 0;
+    }
+
+    /**
+     * @return key的序号，已存在时返回原序号
+     */
+    public int add(byte[] bytes, int start, int end) {
+        int slot = slot(bytes, start, end);
+        if (table[slot] >= 0) {
+            return table[slot];
+        }
+        int length = end - start;
+        if (dataLength + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length));
+        }
+        System.arraycopy(bytes, start, data, dataLength, length);
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = dataLength;
+        ends[size] = dataLength + length;
+        dataLength += length;
+        table[slot] = size;
+        if (++size * 2 > table.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    /**
+     * @return key的序号，不存在返回-1
+     */
+    public int indexOf(byte[] bytes, int start, int end) {
+        return table[slot(bytes, start, end)];
+    }
+
+    private int slot(byte[] bytes, int start, int end) {
+        int mask = table.length - 1;
+        int slot = Utf8.hash(bytes, start, end) & mask;
+        while (table[slot] >= 0) {
+            int index = table[slot];
+            if (Utf8.equals(data, starts[index], ends[index] - starts[index], bytes, start, end - start)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        table = newTable(table.length * 2);
+        int mask = table.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = Utf8.hash(data, starts[index], ends[index]) & mask;
+            while (table[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index;
+        }
+    }
+}
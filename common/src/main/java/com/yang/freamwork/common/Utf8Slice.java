@@ -0,0 +1,77 @@
+package com.yang.freamwork.common;
+
+import org.apache.hadoop.io.Text;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8字节数组上的一段区间，只引用不复制，由{@link Converters.Utf8Converter}复用
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class Utf8Slice {
+
+    private byte[] bytes;
+    private int start;
+    private int end;
+
+    public Utf8Slice set(byte[] bytes, int start, int end) {
+        this.bytes = bytes;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    public Utf8Slice set(Text text) {
+        return set(text.getBytes(), 0, text.getLength());
+    }
+
+    public Utf8Slice set(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        return set(b, 0, b.length);
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public boolean contentEquals(Utf8Slice other) {
+        return Utf8.equals(bytes, start, length(), other.bytes, other.start, other.length());
+    }
+
+    public long parseLong() {
+        return Utf8.parseLong(bytes, start, end);
+    }
+
+    public double parseDouble() {
+        return Utf8.parseDouble(bytes, start, end);
+    }
+
+    /**
+     * 复制出独立的一份，用于需要跨行保存的场景
+     */
+    public Utf8Slice copy() {
+        byte[] b = new byte[length()];
+        System.arraycopy(bytes, start, b, 0, b.length);
+        return new Utf8Slice().set(b, 0, b.length);
+    }
+
+    @Override
+    public String toString() {
+        return Utf8.decode(bytes, start, end);
+    }
+}
@@ -0,0 +1,106 @@
+package com.yang.freamwork.common;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 按分隔符在UTF-8字节上切分，不创建子串，切分结果与String.split(delimiter)一致：
+ * 保留开头和中间的空串，丢弃末尾的空串，没有分隔符时返回整个输入
+ * 分隔符需要是普通字符串，含正则元字符的分隔符先用{@link #isLiteral(String)}判断，交给Pattern处理
+ * 例：
+ * tokenizer.reset(bytes, 0, length);
+ * while (tokenizer.next()) {
+ * ... tokenizer.start() ~ tokenizer.end()
+ * }
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class Utf8Tokenizer {
+
+    private static final String REGEX_META_CHARS = ".$|()[]{}^?*+\\";
+
+    private final byte[] delimiter;
+    private byte[] bytes;
+    private int pos;
+    private int end;
+    private int count;
+    private int tokenStart;
+    private int tokenEnd;
+
+    public Utf8Tokenizer(String delimiter) {
+        if (!isLiteral(delimiter)) {
+            throw new IllegalArgumentException("delimiter `" + delimiter + "` is a regex");
+        }
+        this.delimiter = unescape(delimiter).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 作为正则时与原字符串含义相同的分隔符，即不含元字符，或是转义的单个非字母数字字符，如：\\|
+     */
+    public static boolean isLiteral(String delimiter) {
+        if (delimiter.isEmpty()) {
+            return false;
+        }
+        if (delimiter.length() == 2 && delimiter.charAt(0) == '\\') {
+            return !Character.isLetterOrDigit(delimiter.charAt(1));
+        }
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(delimiter.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unescape(String delimiter) {
+        return delimiter.length() == 2 && delimiter.charAt(0) == '\\' ? delimiter.substring(1) : delimiter;
+    }
+
+    public Utf8Tokenizer reset(byte[] bytes, int start, int end) {
+        this.bytes = bytes;
+        this.pos = start;
+        this.end = end;
+        this.count = 0;
+        return this;
+    }
+
+    public boolean next() {
+        if (pos > end) {
+            return false;
+        }
+        int index = Utf8.indexOf(bytes, pos, end, delimiter);
+        if (index < 0) {
+            tokenStart = pos;
+            tokenEnd = end;
+            pos = end + 1;
+            // 末尾的空串丢弃，整个输入没有分隔符时保留
+            return tokenStart < tokenEnd || count++ == 0;
+        }
+        tokenStart = pos;
+        tokenEnd = index;
+        pos = index + delimiter.length;
+        if (tokenStart == tokenEnd && onlyDelimitersLeft()) {
+            pos = end + 1;
+            return false;
+        }
+        count++;
+        return true;
+    }
+
+    private boolean onlyDelimitersLeft() {
+        int p = pos;
+        while (p + delimiter.length <= end && Utf8.startsWith(bytes, p, delimiter)) {
+            p += delimiter.length;
+        }
+        return p >= end;
+    }
+
+    public int start() {
+        return tokenStart;
+    }
+
+    public int end() {
+        return tokenEnd;
+    }
+}
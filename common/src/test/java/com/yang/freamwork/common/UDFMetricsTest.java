@@ -0,0 +1,108 @@
+package com.yang.freamwork.common;
+
+import org.apache.hadoop.mapred.Reporter;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * UDFMetrics的增量上报：每4096行上报一次，close上报剩余部分，拿到Reporter前的本地汇总不能丢
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class UDFMetricsTest {
+
+    private static final String NAME = "TestUDF";
+
+    /**
+     * 只记录incrCounter(group, name, amount)，不依赖Reporter接口其他方法的版本差异
+     */
+    private static Reporter reporter(Map<String, Long> counters) {
+        return (Reporter) Proxy.newProxyInstance(Reporter.class.getClassLoader(), new Class<?>[]{Reporter.class},
+                (proxy, method, args) -> {
+                    if ("incrCounter".equals(method.getName()) && args.length == 3 && args[0] instanceof String) {
+                        assertEquals(UDFMetrics.GROUP, args[0]);
+                        counters.merge((String) args[1], (Long) args[2], Long::sum);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * 每3行1个NULL，每7行1次解析失败
+     */
+    private static void run(UDFMetrics metrics, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long start = metrics.begin();
+            if (i % 7 == 0) {
+                metrics.parseFailure();
+            }
+            metrics.end(start, i % 3 == 0 ? null : "value");
+        }
+    }
+
+    private static long counter(Map<String, Long> counters, String metric) {
+        return counters.getOrDefault(NAME + "." + metric, 0L);
+    }
+
+    @Test
+    public void flushEvery4096RowsAndRestOnClose() {
+        Map<String, Long> counters = new HashMap<>();
+        UDFMetrics metrics = new UDFMetrics(NAME);
+        metrics.setReporter(reporter(counters));
+
+        run(metrics, 0, 4095);
+        assertTrue(counters.isEmpty());
+        run(metrics, 4095, 4096);
+        assertEquals(4096, counter(counters, "ROWS"));
+        assertEquals(1366, counter(counters, "NULLS"));
+        assertEquals(586, counter(counters, "PARSE_FAILURES"));
+        assertEquals(4, counter(counters, "SAMPLED_ROWS"));
+
+        run(metrics, 4096, 10000);
+        assertEquals(8192, counter(counters, "ROWS"));
+        metrics.close();
+        assertEquals(10000, counter(counters, "ROWS"));
+        assertEquals(3334, counter(counters, "NULLS"));
+        assertEquals(1429, counter(counters, "PARSE_FAILURES"));
+        assertEquals(10, counter(counters, "SAMPLED_ROWS"));
+        assertTrue(counter(counters, "SAMPLED_NANOS") >= 0);
+    }
+
+    @Test
+    public void localTotalsCarriedOverWhenReporterAppears() {
+        Map<String, Long> counters = new HashMap<>();
+        UDFMetrics metrics = new UDFMetrics(NAME);
+
+        // 前两次上报时没有Reporter，计入本地汇总
+        run(metrics, 0, 9000);
+        assertTrue(counters.isEmpty());
+        metrics.setReporter(reporter(counters));
+        run(metrics, 9000, 10000);
+        metrics.close();
+        assertEquals(10000, counter(counters, "ROWS"));
+        assertEquals(3334, counter(counters, "NULLS"));
+        assertEquals(1429, counter(counters, "PARSE_FAILURES"));
+        assertEquals(10, counter(counters, "SAMPLED_ROWS"));
+
+        // 已上报的部分不会重复上报
+        metrics.close();
+        assertEquals(10000, counter(counters, "ROWS"));
+        assertEquals(3334, counter(counters, "NULLS"));
+    }
+
+    @Test
+    public void closeWithoutReporter() {
+        UDFMetrics metrics = new UDFMetrics(NAME);
+        metrics.close();
+        run(metrics, 0, 300000);
+        metrics.close();
+    }
+}
@@ -0,0 +1,94 @@
+package com.yang.freamwork.common;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Utf8Index的序号需要与按插入顺序去重的结果一致，多次扩容后仍能查到所有key
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class Utf8IndexTest {
+
+    @Test
+    public void duplicateKeysKeepFirstOrdinalAcrossRehash() {
+        Utf8Index index = new Utf8Index();
+        Map<String, Integer> expected = new HashMap<>();
+        // 初始容量32，插入5000个不同的key会扩容多次，每个key重复插入
+        for (int i = 0; i < 10000; i++) {
+            String key = "特征_" + (i % 5000);
+            Integer ordinal = expected.get(key);
+            if (ordinal == null) {
+                ordinal = expected.size();
+                expected.put(key, ordinal);
+            }
+            assertEquals(key, ordinal.intValue(), add(index, key));
+        }
+        assertEquals(5000, index.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue().intValue(), indexOf(index, entry.getKey()));
+        }
+        assertEquals(-1, indexOf(index, "特征_5000"));
+        assertEquals(-1, indexOf(index, "特征"));
+        assertEquals(-1, indexOf(index, ""));
+    }
+
+    @Test
+    public void emptyKey() {
+        Utf8Index index = new Utf8Index();
+        assertEquals(0, add(index, "a"));
+        assertEquals(1, add(index, ""));
+        assertEquals(1, add(index, ""));
+        assertEquals(1, indexOf(index, ""));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void keysAreCopied() {
+        Utf8Index index = new Utf8Index();
+        byte[] bytes = "a,b".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0, index.add(bytes, 0, 1));
+        assertEquals(1, index.add(bytes, 2, 3));
+        bytes[0] = 'x';
+        assertEquals(0, indexOf(index, "a"));
+        assertEquals(-1, indexOf(index, "x"));
+    }
+
+    @Test
+    public void clearAndReuse() {
+        Utf8Index index = new Utf8Index();
+        for (int i = 0; i < 1000; i++) {
+            add(index, "k" + i);
+        }
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(-1, indexOf(index, "k0"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, add(index, "v" + i));
+            assertEquals(i, add(index, "v" + i));
+        }
+        assertEquals(100, index.size());
+        assertEquals(-1, indexOf(index, "k1"));
+        assertEquals(99, indexOf(index, "v99"));
+    }
+
+    /**
+     * 在更大的数组中间添加、查找，验证只读取[start, end)
+     */
+    private static int add(Utf8Index index, String key) {
+        byte[] bytes = ("#" + key + "#").getBytes(StandardCharsets.UTF_8);
+        return index.add(bytes, 1, bytes.length - 1);
+    }
+
+    private static int indexOf(Utf8Index index, String key) {
+        byte[] bytes = ("$" + key + "$").getBytes(StandardCharsets.UTF_8);
+        return index.indexOf(bytes, 1, bytes.length - 1);
+    }
+}
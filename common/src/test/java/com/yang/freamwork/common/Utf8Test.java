@@ -0,0 +1,152 @@
+package com.yang.freamwork.common;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Utf8的解析结果、抛出的异常需要与Long.parseLong、Double.parseDouble完全一致
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class Utf8Test {
+
+    private static final String[] LONGS = {
+            "0", "-0", "+0", "7", "-7", "+7", "123", "-123", "00123",
+            "123456789012345678", "-123456789012345678",
+            "1234567890123456789", "9223372036854775807", "-9223372036854775808",
+            "9223372036854775808", "-9223372036854775809", "99999999999999999999",
+            "", "-", "+", "--1", "+-1", " 1", "1 ", "1a", "a1", "1.0", "1e3", "0x10",
+            "١٢٣", "18888888888"
+    };
+
+    private static final String[] DOUBLES = {
+            "0", "-0", "+0", "0.0", "-0.0", "+0.0", "1", "-1", "1.", "-1.", ".5", "-.5", "+.5",
+            "0.1", "0.3", "110.312", "-30.132", "123.42", "1.5e3", "1.5E3", "1e-3", "-1E+3",
+            "1e400", "-1e400", "1e-400", "4.9e-324", "1.7976931348623157e308",
+            "NaN", "Infinity", "-Infinity", "+Infinity",
+            " 1.5", "1.5 ", "\t2\n", "1.5d", "1.5f", "1.5D", "0x1p3",
+            "9007199254740991", "9007199254740992", "9007199254740993",
+            "123456789012345678", "1234567890123456789", "123456789012345678901234567890",
+            "0.1234567890123456789", "12345.6789012345678", "1.00000000000000000000001",
+            "0.0000000000000000000001", "0.00000000000000000000001",
+            "", ".", "-", "+", "+.", "-.", "1..2", "1.2.3", "..1", "abc", "1,5", "--1", "١"
+    };
+
+    @Test
+    public void parseLongSameAsJdk() {
+        for (String s : LONGS) {
+            assertLongSameAsJdk(s);
+        }
+    }
+
+    @Test
+    public void parseDoubleSameAsJdk() {
+        for (String s : DOUBLES) {
+            assertDoubleSameAsJdk(s);
+        }
+    }
+
+    @Test
+    public void parseRandomNumbersSameAsJdk() {
+        Random random = new Random(20261019L);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int sign = random.nextInt(4);
+            if (sign == 0) {
+                sb.append('-');
+            } else if (sign == 1) {
+                sb.append('+');
+            }
+            int digits = random.nextInt(22);
+            int dot = random.nextInt(digits + 2) - 1;
+            for (int j = 0; j < digits; j++) {
+                if (j == dot) {
+                    sb.append('.');
+                }
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            String s = sb.toString();
+            assertLongSameAsJdk(s);
+            assertDoubleSameAsJdk(s);
+        }
+    }
+
+    @Test
+    public void indexOfFindsFirstMatchInRange() {
+        byte[] bytes = bytes("a,b,,c中文中");
+        assertEquals(1, Utf8.indexOf(bytes, 0, bytes.length, bytes(",")));
+        assertEquals(3, Utf8.indexOf(bytes, 2, bytes.length, bytes(",")));
+        assertEquals(-1, Utf8.indexOf(bytes, 0, 1, bytes(",")));
+        assertEquals(6, Utf8.indexOf(bytes, 0, bytes.length, bytes("中")));
+        assertEquals(12, Utf8.indexOf(bytes, 7, bytes.length, bytes("中")));
+        assertEquals(-1, Utf8.indexOf(bytes, 7, bytes.length - 1, bytes("中")));
+        assertEquals(-1, Utf8.indexOf(bytes, 0, bytes.length, bytes("文文")));
+    }
+
+    @Test
+    public void equalsAndHashUseOnlyTheRange() {
+        byte[] a = bytes("xxkeyxx");
+        byte[] b = bytes("key");
+        assertEquals(true, Utf8.equals(a, 2, 3, b, 0, 3));
+        assertEquals(false, Utf8.equals(a, 2, 4, b, 0, 3));
+        assertEquals(Utf8.hash(b, 0, 3), Utf8.hash(a, 2, 5));
+        assertEquals("key", Utf8.decode(a, 2, 5));
+    }
+
+    /**
+     * 在更大的数组中间解析，验证只读取[start, end)
+     */
+    private static void assertLongSameAsJdk(String s) {
+        byte[] bytes = bytes("9" + s + "9");
+        Long expected;
+        try {
+            expected = Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            expected = null;
+        }
+        try {
+            long actual = Utf8.parseLong(bytes, 1, bytes.length - 1);
+            if (expected == null) {
+                fail("`" + s + "` expected NumberFormatException but was " + actual);
+            }
+            assertEquals("`" + s + "`", expected.longValue(), actual);
+        } catch (NumberFormatException e) {
+            if (expected != null) {
+                fail("`" + s + "` expected " + expected + " but was " + e);
+            }
+        }
+    }
+
+    private static void assertDoubleSameAsJdk(String s) {
+        byte[] bytes = bytes("9" + s + "9");
+        Double expected;
+        try {
+            expected = Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            expected = null;
+        }
+        try {
+            double actual = Utf8.parseDouble(bytes, 1, bytes.length - 1);
+            if (expected == null) {
+                fail("`" + s + "` expected NumberFormatException but was " + actual);
+            }
+            // 按位比较，区分0.0和-0.0
+            assertEquals("`" + s + "`", Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+        } catch (NumberFormatException e) {
+            if (expected != null) {
+                fail("`" + s + "` expected " + expected + " but was " + e);
+            }
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
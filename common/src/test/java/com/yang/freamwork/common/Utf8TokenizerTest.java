@@ -0,0 +1,112 @@
+package com.yang.freamwork.common;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Utf8Tokenizer的切分结果需要与String.split一致
+ *
+ * @author yangfan
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class Utf8TokenizerTest {
+
+    private static final String[] INPUTS = {
+            "", ",", ",,", "a", "a,b", ",a", "a,", "a,,", ",,a", ",a,,b,,", "a,,b", "中,文,,", ",中文"
+    };
+
+    @Test
+    public void splitSameAsString() {
+        for (String input : INPUTS) {
+            assertSplitSameAsString(",", input);
+        }
+    }
+
+    @Test
+    public void multiByteDelimiterSameAsString() {
+        String[] delimiters = {"::", "分隔", "ab", "中"};
+        for (String delimiter : delimiters) {
+            for (String input : INPUTS) {
+                assertSplitSameAsString(delimiter, input.replace(",", delimiter));
+            }
+        }
+        // 分隔符前缀与内容重叠
+        assertSplitSameAsString("ab", "aab");
+        assertSplitSameAsString("ab", "abab");
+        assertSplitSameAsString("ab", "aaba");
+        assertSplitSameAsString("::", ":::");
+        assertSplitSameAsString("::", "a:::b::");
+    }
+
+    @Test
+    public void escapedDelimiterSameAsString() {
+        assertSplitSameAsString("\\|", "a|b||");
+        assertSplitSameAsString("\\.", ".a.b");
+    }
+
+    @Test
+    public void randomSplitSameAsString() {
+        Random random = new Random(20261019L);
+        String[] alphabet = {"a", "b", ",", "::", ":", "中"};
+        String[] delimiters = {",", "::", "中"};
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSplitSameAsString(delimiters[random.nextInt(delimiters.length)], sb.toString());
+        }
+    }
+
+    @Test
+    public void literalDelimiters() {
+        assertTrue(Utf8Tokenizer.isLiteral(","));
+        assertTrue(Utf8Tokenizer.isLiteral("::"));
+        assertTrue(Utf8Tokenizer.isLiteral("分隔"));
+        assertTrue(Utf8Tokenizer.isLiteral("\\|"));
+        assertTrue(Utf8Tokenizer.isLiteral("\\."));
+        assertFalse(Utf8Tokenizer.isLiteral(""));
+        assertFalse(Utf8Tokenizer.isLiteral("|"));
+        assertFalse(Utf8Tokenizer.isLiteral("."));
+        assertFalse(Utf8Tokenizer.isLiteral("a|b"));
+        assertFalse(Utf8Tokenizer.isLiteral("\\d"));
+        assertFalse(Utf8Tokenizer.isLiteral("\\t"));
+        assertFalse(Utf8Tokenizer.isLiteral("[,;]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void regexDelimiterRejected() {
+        new Utf8Tokenizer("\\s+");
+    }
+
+    private static void assertSplitSameAsString(String delimiter, String input) {
+        List<String> expected = Arrays.asList(input.split(delimiter));
+        assertEquals("`" + input + "` split by `" + delimiter + "`", expected, split(delimiter, input));
+        assertEquals(expected, Arrays.asList(Pattern.compile(delimiter).split(input)));
+    }
+
+    /**
+     * 在更大的数组中间切分，验证只读取[start, end)
+     */
+    private static List<String> split(String delimiter, String input) {
+        byte[] bytes = ("x" + input + "x").getBytes(StandardCharsets.UTF_8);
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(delimiter).reset(bytes, 1, bytes.length - 1);
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            tokens.add(Utf8.decode(bytes, tokenizer.start(), tokenizer.end()));
+        }
+        return tokens;
+    }
+}